@@ -2,5 +2,4 @@
 CLASSPATH=classes:$(ls lib/* | sed 's/ /:/')
 echo $CLASSPATH
 mkdir -p classes
-javac -cp "lib/*" -sourcepath src/main/java -d classes src/main/java/depsolver/Main.java
-#javac -sourcepath src/main/java -d classes $JAVAS
+javac -cp "lib/*" -sourcepath src/main/java -d classes $(find src/main/java -name '*.java')
@@ -1,5 +1,40 @@
 #!/bin/bash
+commands=$(mktemp)
+trap 'rm -f $commands' EXIT
+failed=0
+
+# runs a test, and if it has a cost file checks that the plan is valid and costs exactly that, or that it's [] when the cost says unsat
+run() {
+  f=$1
+  shift
+  output=$(./solve "$@" $f/repository.json $f/initial.json $f/constraints.json)
+  echo "$output"
+  [ -f $f/cost ] || return
+
+  expected=$(cat $f/cost)
+  if [ "$expected" = unsat ]; then
+    if [ "$output" = "[]" ]; then actual=unsat; else actual="$output"; fi
+  else
+    echo "$output" > $commands
+    actual=$(java -cp "classes:lib/*" depsolver.PlanChecker $f/repository.json $f/initial.json $f/constraints.json $commands)
+  fi
+
+  if [ "$actual" != "$expected" ]; then
+    echo "FAILED $f $*: expected $expected, got $actual"
+    failed=1
+  fi
+}
+
 for f in $(ls -d tests/*); do
   echo "Running $f"
-  ./solve $f/repository.json $f/initial.json $f/constraints.json
+  run $f
+  # a test can ask to be run again with other engines, one set of options per line
+  if [ -f $f/options ]; then
+    while read -r options; do
+      echo "Running $f with $options"
+      run $f $options
+    done < $f/options
+  fi
 done
+
+exit $failed
@@ -0,0 +1,12 @@
+package depsolver;
+
+import java.util.Set;
+
+class CircularDependencyException extends Exception {
+    Set<Package> circularPackages;
+
+    public CircularDependencyException(Set<Package> circularPackages) {
+        super();
+        this.circularPackages = circularPackages;
+    }
+}
@@ -0,0 +1,58 @@
+package depsolver;
+
+import java.util.*;
+
+/**
+ * The dependencies and conflicts between the packages of one component, worked out once up front so the searches don't keep re-parsing package strings.
+ * Everything in here only ever points at packages inside the component.
+ */
+class ComponentGraph {
+    final Map<Package, List<Set<Package>>> dependencyClauses = new HashMap<>(); // one set of alternatives per dependency that has to be met inside the component
+    final Map<Package, Set<Package>> dependencies = new HashMap<>();
+    final Map<Package, Set<Package>> dependents = new HashMap<>();
+    final Map<Package, Set<Package>> conflicts = new HashMap<>(); // both ways round
+    final List<Set<Package>> orGroups = new ArrayList<>(); // + constraints and dependencies with more than one alternative
+
+    ComponentGraph(Repository repository, ProblemComponent component) {
+        for(Package p : component.packages) {
+            dependencyClauses.put(p, new ArrayList<>());
+            dependencies.put(p, new HashSet<>());
+            dependents.put(p, new HashSet<>());
+            conflicts.put(p, new HashSet<>());
+        }
+
+        for(Map.Entry<String, Set<Package>> nextConstraint : component.constraints.entrySet()) {
+            if(nextConstraint.getKey().charAt(0) == '+' && nextConstraint.getValue().size() > 1) orGroups.add(nextConstraint.getValue());
+        }
+
+        for(Package p : component.packages) {
+            for(List<String> nextDependencyRaw : p.getDepends()) {
+                Set<Package> alternatives = new HashSet<>();
+                boolean external = false;
+                for(Set<Package> nextDependencyOuter : repository.getPackagesFromString(nextDependencyRaw)) {
+                    for(Package nextDependencyInner : nextDependencyOuter) {
+                        if(component.packages.contains(nextDependencyInner)) alternatives.add(nextDependencyInner);
+                        else external = true;
+                    }
+                }
+                if(external) continue; // the formula leaves packages outside the component free, so this one can always be met
+
+                dependencyClauses.get(p).add(alternatives);
+                for(Package nextAlternative : alternatives) {
+                    dependencies.get(p).add(nextAlternative);
+                    dependents.get(nextAlternative).add(p);
+                }
+                if(alternatives.size() > 1) orGroups.add(alternatives);
+            }
+
+            for(Set<Package> nextConflictOuter : repository.getPackagesFromString(p.getConflicts())) {
+                for(Package nextConflictInner : nextConflictOuter) {
+                    if(component.packages.contains(nextConflictInner) && nextConflictInner != p) {
+                        conflicts.get(p).add(nextConflictInner);
+                        conflicts.get(nextConflictInner).add(p);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package depsolver;
+
+import java.util.LinkedList;
+import java.util.List;
+
+class ComponentSolution {
+    List<String> commands;
+    long modelsEnumerated;
+    List<CostSample> costHistory = new LinkedList<>();
+    boolean timedOut = false; // the exact enumeration hit the time limit, so the commands aren't necessarily the cheapest
+
+    public ComponentSolution(List<String> commands, long modelsEnumerated) {
+        this.commands = commands;
+        this.modelsEnumerated = modelsEnumerated;
+    }
+}
@@ -0,0 +1,20 @@
+package depsolver;
+
+/**
+ * The best cost found so far at some point during a search
+ */
+public final class CostSample {
+    private final long elapsedMillis;
+    private final long cost;
+
+    CostSample(long elapsedMillis, long cost) {
+        this.elapsedMillis = elapsedMillis;
+        this.cost = cost;
+    }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public long getCost() { return cost; }
+
+    @Override
+    public String toString() { return elapsedMillis + "ms " + cost; }
+}
@@ -0,0 +1,23 @@
+package depsolver;
+
+/**
+ * How the solver looks for the cheapest final state of each component
+ */
+public enum Engine {
+    /**
+     * Enumerates every model of the component and keeps the cheapest, so the answer is optimal.
+     * If the request sets a time limit and it runs out first, the cheapest model found by then is used and the result says it timed out.
+     */
+    EXACT,
+
+    /**
+     * Starts from any valid model and keeps re-solving small neighbourhoods of it exactly until it stops improving or runs out of time
+     */
+    LOCAL_SEARCH,
+
+    /**
+     * Starts from the initial state and repairs it one constraint, dependency or conflict at a time, without the SAT solver.
+     * Falls back to the local search for any component it can't repair.
+     */
+    GREEDY
+}
@@ -0,0 +1,44 @@
+package depsolver;
+
+import java.util.List;
+
+/**
+ * Runs the exact, local search and greedy engines side by side on generated instances of growing size.
+ * EngineComparison [instancesPerSize] [localSearchMillis] [exactTimeoutMillis]
+ * The exact engine stops enumerating at its timeout, so a timed out run doesn't keep eating CPU while the other engines are being timed.
+ */
+public class EngineComparison {
+  private static final int[] SIZES = { 6, 10, 15, 20, 40, 80, 160, 320 };
+
+  public static void main(String[] args) {
+    int instancesPerSize = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+    long localSearchMillis = args.length > 1 ? Long.parseLong(args[1]) : 2000L;
+    long exactTimeoutMillis = args.length > 2 ? Long.parseLong(args[2]) : 30000L;
+
+    System.out.println("seed,names,packages,components,exactCost,exactMillis,localSearchCost,localSearchMillis,localSearchImprovements,greedyCost,greedyMillis");
+
+    for(int names : SIZES) {
+      for(int seed = 0; seed < instancesPerSize; seed ++) {
+        InstanceGenerator generator = new InstanceGenerator(names * 1000L + seed);
+        List<Package> packages = generator.generateRepository(names, 4);
+        SolveRequest request = generator.generateRequest(packages, 3);
+
+        Solver solver = new Solver(new Repository(packages));
+
+        SolveResult exact = solver.solve(request.withTimeLimit(exactTimeoutMillis));
+        String exactCost = exact.isTimedOut() ? "timeout" : exact.isSolved() ? Long.toString(exact.getCost()) : "unsat";
+
+        SolveResult localSearch = solver.solve(request.withEngine(Engine.LOCAL_SEARCH).withTimeLimit(localSearchMillis));
+        String localSearchCost = localSearch.isSolved() ? Long.toString(localSearch.getCost()) : "unsat";
+
+        SolveResult greedy = solver.solve(request.withEngine(Engine.GREEDY).withTimeLimit(localSearchMillis));
+        String greedyCost = greedy.isSolved() ? Long.toString(greedy.getCost()) : "unsat";
+
+        System.out.println(seed + "," + names + "," + packages.size() + "," + localSearch.getComponents() + ","
+                + exactCost + "," + exact.getElapsedMillis() + ","
+                + localSearchCost + "," + localSearch.getElapsedMillis() + "," + localSearch.getCostHistory().size() + ","
+                + greedyCost + "," + greedy.getElapsedMillis());
+      }
+    }
+  }
+}
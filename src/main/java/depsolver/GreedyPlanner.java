@@ -0,0 +1,208 @@
+package depsolver;
+
+import java.util.*;
+
+/**
+ * Plans a final state for one component without the SAT solver. Starts from what is installed already, meets each + constraint with the cheapest
+ * version that fits, then repairs unmet dependencies and conflicts one at a time until nothing is left to fix. Quick, but not necessarily the cheapest.
+ */
+class GreedyPlanner {
+    private final ComponentGraph graph;
+    private final ProblemComponent component;
+    private final Set<Package> initialPackages;
+
+    private final Set<Package> state = new HashSet<>();
+    private final Set<Package> pinned = new HashSet<>(); // the packages currently meeting a + constraint
+    private final Set<Package> forbidden = new HashSet<>(); // ruled out by a - constraint, or taken out during a repair so we don't go round in circles
+    private boolean stuck = false;
+
+    GreedyPlanner(ComponentGraph graph, ProblemComponent component, Set<Package> initialPackages) {
+        this.graph = graph;
+        this.component = component;
+        this.initialPackages = initialPackages;
+    }
+
+    /**
+     * @return the packages of the component to end up with, or null if the repairs got stuck
+     */
+    Set<Package> plan() {
+        for(Map.Entry<String, Set<Package>> nextConstraint : component.constraints.entrySet()) {
+            if(nextConstraint.getKey().charAt(0) == '-') forbidden.addAll(nextConstraint.getValue());
+        }
+
+        for(Package p : component.packages) {
+            if(initialPackages.contains(p) && !forbidden.contains(p)) state.add(p);
+        }
+
+        // every repair either installs something that wasn't there or rules something out for good, so this is plenty
+        int maxRounds = 2 * component.packages.size() + 10;
+        for(int round = 0; round < maxRounds; round ++) {
+            boolean changed = satisfyInstallConstraints();
+            if(stuck) return null;
+
+            changed |= repairDependencies();
+            changed |= repairConflicts();
+
+            if(!changed) {
+                removeUnneeded();
+                return isValid() ? new HashSet<>(state) : null;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean satisfyInstallConstraints() {
+        boolean changed = false;
+
+        for(Map.Entry<String, Set<Package>> nextConstraint : component.constraints.entrySet()) {
+            if(nextConstraint.getKey().charAt(0) != '+') continue;
+
+            Set<Package> installed = Solver.getSetIntersection(nextConstraint.getValue(), state);
+            if(!installed.isEmpty()) {
+                pinned.addAll(installed);
+                continue;
+            }
+
+            Package cheapest = pickCheapest(nextConstraint.getValue());
+            if(cheapest == null) {
+                stuck = true;
+                return false;
+            }
+
+            state.add(cheapest);
+            pinned.add(cheapest);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private boolean repairDependencies() {
+        boolean changed = false;
+
+        for(Package p : new ArrayList<>(state)) {
+            if(!state.contains(p)) continue;
+
+            for(Set<Package> nextClause : graph.dependencyClauses.get(p)) {
+                if(!Collections.disjoint(nextClause, state)) continue;
+
+                Package cheapest = pickCheapest(nextClause);
+                if(cheapest == null) {
+                    removeFromState(p);
+                } else {
+                    state.add(cheapest);
+                }
+                changed = true;
+
+                if(!state.contains(p)) break;
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean repairConflicts() {
+        boolean changed = false;
+
+        for(Package p : new ArrayList<>(state)) {
+            if(!state.contains(p)) continue;
+
+            for(Package q : graph.conflicts.get(p)) {
+                if(!state.contains(q)) continue;
+
+                removeFromState(pickVictim(p, q));
+                changed = true;
+
+                if(!state.contains(p)) break;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Keeps whatever meets a + constraint, then whatever was installed to begin with (taking it out costs far more than anything else), then the cheaper one
+     */
+    private Package pickVictim(Package p, Package q) {
+        if(pinned.contains(p) != pinned.contains(q)) return pinned.contains(p) ? q : p;
+        if(initialPackages.contains(p) != initialPackages.contains(q)) return initialPackages.contains(p) ? q : p;
+        return p.getSize() >= q.getSize() ? p : q;
+    }
+
+    /**
+     * Takes out packages that were only put in for something that has since been removed
+     */
+    private void removeUnneeded() {
+        boolean changed = true;
+
+        while(changed) {
+            changed = false;
+
+            for(Package p : new ArrayList<>(state)) {
+                if(initialPackages.contains(p) || pinned.contains(p)) continue;
+
+                state.remove(p);
+                if(isNeeded(p)) state.add(p);
+                else changed = true;
+            }
+        }
+    }
+
+    private boolean isNeeded(Package removed) {
+        for(Package nextDependent : graph.dependents.get(removed)) {
+            if(!state.contains(nextDependent)) continue;
+
+            for(Set<Package> nextClause : graph.dependencyClauses.get(nextDependent)) {
+                if(nextClause.contains(removed) && Collections.disjoint(nextClause, state)) return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isValid() {
+        for(Package p : state) {
+            for(Set<Package> nextClause : graph.dependencyClauses.get(p)) {
+                if(Collections.disjoint(nextClause, state)) return false;
+            }
+
+            if(!Collections.disjoint(graph.conflicts.get(p), state)) return false;
+        }
+
+        for(Map.Entry<String, Set<Package>> nextConstraint : component.constraints.entrySet()) {
+            boolean met = !Collections.disjoint(nextConstraint.getValue(), state);
+            if(met != (nextConstraint.getKey().charAt(0) == '+')) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Prefers what's already installed, then anything that doesn't conflict with the current state, then the smallest
+     */
+    private Package pickCheapest(Set<Package> alternatives) {
+        Package cheapest = null;
+        long cheapestCost = Long.MAX_VALUE;
+
+        for(Package nextAlternative : alternatives) {
+            if(forbidden.contains(nextAlternative)) continue;
+
+            long cost = initialPackages.contains(nextAlternative) ? 0L : nextAlternative.getSize();
+            if(!Collections.disjoint(graph.conflicts.get(nextAlternative), state)) cost += 1000000L;
+
+            if(cost < cheapestCost) {
+                cheapest = nextAlternative;
+                cheapestCost = cost;
+            }
+        }
+
+        return cheapest;
+    }
+
+    private void removeFromState(Package p) {
+        state.remove(p);
+        pinned.remove(p);
+        forbidden.add(p);
+    }
+}
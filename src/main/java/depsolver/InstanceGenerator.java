@@ -0,0 +1,92 @@
+package depsolver;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Makes up random repositories and requests for benchmarking. Packages only ever depend on packages with a higher number, so there are no circles,
+ * but they can conflict with anything.
+ */
+class InstanceGenerator {
+    private final Random random;
+
+    InstanceGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    List<Package> generateRepository(int names, int maxVersions) {
+        List<Package> repo = new ArrayList<>();
+        int[] versions = new int[names];
+        for(int i = 0; i < names; i ++) versions[i] = 1 + random.nextInt(maxVersions);
+
+        for(int i = 0; i < names; i ++) {
+            for(int v = 1; v <= versions[i]; v ++) {
+                Package p = new Package();
+                p.setName(getName(i));
+                p.setVersion(Integer.toString(v));
+                p.setSize(1 + random.nextInt(10000));
+
+                List<List<String>> depends = new ArrayList<>();
+                int dependencies = i + 1 < names ? random.nextInt(3) : 0;
+                for(int d = 0; d < dependencies; d ++) {
+                    List<String> alternatives = new ArrayList<>();
+                    int alternativeCount = 1 + random.nextInt(3);
+                    for(int a = 0; a < alternativeCount; a ++) {
+                        int target = i + 1 + random.nextInt(Math.min(20, names - i - 1));
+                        alternatives.add(getReference(target, versions[target]));
+                    }
+                    depends.add(alternatives);
+                }
+                p.setDepends(depends);
+
+                List<String> conflicts = new ArrayList<>();
+                if(random.nextInt(5) == 0) {
+                    int target = random.nextInt(names);
+                    if(target != i) conflicts.add(getReference(target, versions[target]));
+                }
+                p.setConflicts(conflicts);
+
+                repo.add(p);
+            }
+        }
+
+        return repo;
+    }
+
+    /**
+     * Installs a few packages that don't depend on anything, asks for a few different packages and rules out one version somewhere
+     */
+    SolveRequest generateRequest(List<Package> repo, int installs) {
+        List<String> initial = new ArrayList<>();
+        for(Package p : repo) {
+            if(p.getDepends().isEmpty() && p.getConflicts().isEmpty() && random.nextInt(10) == 0) initial.add(p.getName() + "=" + p.getVersion());
+        }
+
+        // distinct names from all over the repository, so the requests don't all pile onto the same package and can split into several components
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(repo.stream().map(Package::getName).collect(Collectors.toList())));
+        Collections.shuffle(names, random);
+
+        List<String> constraints = new ArrayList<>();
+        for(int i = 0; i < Math.min(installs, names.size()); i ++) {
+            constraints.add("+" + names.get(i));
+        }
+        Package forbidden = repo.get(random.nextInt(repo.size()));
+        constraints.add("-" + forbidden.getName() + "=" + forbidden.getVersion());
+
+        return new SolveRequest(initial, constraints);
+    }
+
+    private String getReference(int target, int versions) {
+        String name = getName(target);
+        switch(random.nextInt(4)) {
+            case 0: return name + ">=" + (1 + random.nextInt(versions));
+            case 1: return name + "<" + (1 + random.nextInt(versions) + 1);
+            case 2: return name + "=" + (1 + random.nextInt(versions));
+            default: return name;
+        }
+    }
+
+    private static String getName(int i) {
+        return "P" + i;
+    }
+}
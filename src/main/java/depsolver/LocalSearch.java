@@ -0,0 +1,279 @@
+package depsolver;
+
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+import org.logicng.solvers.SolverState;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Large neighbourhood search over a single component. Each worker starts from a valid model, frees a small group of packages
+ * (an OR group, a conflict cluster, or whatever depends on an expensive package), fixes everything else, and enumerates the
+ * freed packages exactly with the SAT solver. Workers share the best model found and pick it up when they fall behind.
+ */
+class LocalSearch {
+    static final int NEIGHBOURHOOD_SIZE = 14;
+    private static final int MAX_IDLE_NEIGHBOURHOODS = 300;
+    private static final int ADOPT_BEST_EVERY = 25;
+
+    private final Solver solver;
+    private final ProblemComponent component;
+    private final Set<Package> initialPackages;
+    private final int threads;
+    private final long deadline;
+    private final long startTime;
+
+    private final ComponentGraph graph;
+    private final Set<Package> hint;
+
+    private Candidate best = null;
+    private Candidate bestCircular = null; // only used if nothing better could be put in order
+    private final List<CostSample> costHistory = new ArrayList<>();
+    private final AtomicLong neighbourhoodsSolved = new AtomicLong();
+
+    static class Candidate {
+        final Set<Package> install;
+        final long score;
+
+        Candidate(Set<Package> install, long score) {
+            this.install = install;
+            this.score = score;
+        }
+    }
+
+    /**
+     * @param hint a valid final state to start from, or null to start from whatever the SAT solver comes up with first
+     * @param timeLimitMillis how long the workers may keep going for, counted from now
+     * @param startTime when the whole solve started, the cost history is timed from there
+     */
+    LocalSearch(Solver solver, ComponentGraph graph, ProblemComponent component, Set<Package> initialPackages, Set<Package> hint, int threads, long timeLimitMillis, long startTime) {
+        this.solver = solver;
+        this.component = component;
+        this.initialPackages = initialPackages;
+        this.threads = Math.max(1, threads);
+        this.deadline = System.currentTimeMillis() + timeLimitMillis;
+        this.startTime = startTime;
+
+        this.graph = graph;
+        this.hint = hint;
+    }
+
+    /**
+     * @return the best model found that can be installed in some order, failing that the best one with a circular dependency, or null if the component has no models
+     */
+    Candidate run() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int i = 0; i < threads; i ++) {
+                final long seed = i;
+                futures.add(executor.submit(() -> runWorker(seed)));
+            }
+            for(Future<?> nextFuture : futures) nextFuture.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return best != null ? best : bestCircular;
+    }
+
+    synchronized List<CostSample> getCostHistory() {
+        return new ArrayList<>(costHistory);
+    }
+
+    long getNeighbourhoodsSolved() {
+        return neighbourhoodsSolved.get();
+    }
+
+    private void runWorker(long seed) {
+        final FormulaFactory f = new FormulaFactory();
+        final SATSolver miniSat = MiniSat.miniSat(f);
+        miniSat.addPropositions(solver.getComponentPropositions(component, f));
+
+        Map<Package, Variable> variables = new HashMap<>();
+        for(Package p : component.packages) variables.put(p, Solver.getPackageVariable(p, f));
+
+        // start from the hint if there is one, it's usually far cheaper than the first model the solver finds on its own
+        boolean hinted = false;
+        if(hint != null) {
+            List<Literal> hintLiterals = new ArrayList<>();
+            for(Package p : component.packages) hintLiterals.add(hint.contains(p) ? variables.get(p) : variables.get(p).negate());
+            hinted = miniSat.sat(hintLiterals) == Tristate.TRUE;
+        }
+        if(!hinted && miniSat.sat() != Tristate.TRUE) return;
+
+        Candidate current = toCandidate(miniSat.model(variables.values()), Collections.emptySet(), variables);
+        offer(current);
+
+        Random random = new Random(seed);
+        List<Package> packages = new ArrayList<>(component.packages);
+
+        int idle = 0;
+        for(long iteration = 0; idle < MAX_IDLE_NEIGHBOURHOODS && System.currentTimeMillis() < deadline; iteration ++) {
+            if(iteration % ADOPT_BEST_EVERY == 0) {
+                Candidate shared = getBest();
+                if(shared != null && shared.score < current.score) current = shared;
+            }
+
+            Set<Package> neighbourhood = pickNeighbourhood(current, packages, random);
+            Candidate next = solveNeighbourhood(miniSat, f, variables, current, neighbourhood, random);
+
+            if(next.score < current.score) idle = 0;
+            else idle ++;
+
+            offer(next);
+            current = next; // equal moves are taken too so the search can drift across plateaus
+        }
+    }
+
+    /**
+     * Fixes every package outside the neighbourhood to what the current model says and enumerates the rest
+     */
+    private Candidate solveNeighbourhood(SATSolver miniSat, FormulaFactory f, Map<Package, Variable> variables, Candidate current, Set<Package> neighbourhood, Random random) {
+        neighbourhoodsSolved.incrementAndGet();
+
+        SolverState state = miniSat.saveState();
+
+        List<Formula> fixed = new LinkedList<>();
+        for(Package p : component.packages) {
+            if(neighbourhood.contains(p)) continue;
+            fixed.add(current.install.contains(p) ? variables.get(p) : f.not(variables.get(p)));
+        }
+        miniSat.add(f.and(fixed));
+
+        List<Candidate> cheapest = new ArrayList<>();
+        cheapest.add(current);
+
+        if(miniSat.sat() == Tristate.TRUE) {
+            List<Variable> free = neighbourhood.stream().map(variables::get).collect(Collectors.toList());
+
+            for(Assignment nextModel : miniSat.enumerateAllModels(free)) {
+                Candidate candidate = toCandidate(nextModel, Solver.getSetDifference(current.install, neighbourhood), variables);
+
+                if(candidate.score < cheapest.get(0).score) {
+                    cheapest.clear();
+                    cheapest.add(candidate);
+                } else if(candidate.score == cheapest.get(0).score) {
+                    cheapest.add(candidate);
+                }
+            }
+        }
+
+        miniSat.loadState(state);
+
+        return cheapest.get(random.nextInt(cheapest.size()));
+    }
+
+    private Set<Package> pickNeighbourhood(Candidate current, List<Package> packages, Random random) {
+        LinkedList<Package> seeds = new LinkedList<>();
+
+        // with no OR groups at all, pick between the other two
+        int kind = graph.orGroups.isEmpty() ? 1 + random.nextInt(2) : random.nextInt(3);
+
+        switch(kind) {
+            case 0: // one of the OR groups, so the search can swap one alternative for another
+                seeds.addAll(graph.orGroups.get(random.nextInt(graph.orGroups.size())));
+                break;
+            case 1: // a package and everything it conflicts with
+                Package centre = packages.get(random.nextInt(packages.size()));
+                seeds.add(centre);
+                seeds.addAll(graph.conflicts.get(centre));
+                break;
+            default: // an expensive package and whatever needs it
+                Package expensive = pickExpensivePackage(current, packages, random);
+                seeds.add(expensive);
+                seeds.addAll(graph.dependents.get(expensive));
+                break;
+        }
+
+        Collections.shuffle(seeds, random);
+
+        // grow outwards until the neighbourhood is as big as we're willing to enumerate
+        Set<Package> neighbourhood = new LinkedHashSet<>();
+        LinkedList<Package> queue = new LinkedList<>(seeds);
+        while(!queue.isEmpty() && neighbourhood.size() < NEIGHBOURHOOD_SIZE) {
+            Package p = queue.pollFirst();
+            if(!neighbourhood.add(p)) continue;
+
+            List<Package> neighbours = new ArrayList<>(graph.dependencies.get(p));
+            neighbours.addAll(graph.dependents.get(p));
+            neighbours.addAll(graph.conflicts.get(p));
+            Collections.shuffle(neighbours, random);
+            queue.addAll(neighbours);
+        }
+
+        return neighbourhood;
+    }
+
+    /**
+     * Picks an installed package with probability proportional to what it costs, counting initial packages that are being removed as well
+     */
+    private Package pickExpensivePackage(Candidate current, List<Package> packages, Random random) {
+        long total = 0L;
+        long[] costs = new long[packages.size()];
+
+        for(int i = 0; i < packages.size(); i ++) {
+            Package p = packages.get(i);
+            boolean installed = current.install.contains(p);
+            boolean initial = initialPackages.contains(p);
+
+            if(installed && !initial) costs[i] = p.getSize();
+            else if(!installed && initial) costs[i] = 1000000L;
+            total += costs[i];
+        }
+
+        if(total == 0L) return packages.get(random.nextInt(packages.size()));
+
+        long target = (long)(random.nextDouble() * total);
+        for(int i = 0; i < packages.size(); i ++) {
+            target -= costs[i];
+            if(target < 0) return packages.get(i);
+        }
+
+        return packages.get(packages.size() - 1);
+    }
+
+    private Candidate toCandidate(Assignment model, Set<Package> alsoInstalled, Map<Package, Variable> variables) {
+        Set<Package> install = new HashSet<>(alsoInstalled);
+        Set<Literal> positive = new HashSet<>(model.positiveLiterals());
+        for(Map.Entry<Package, Variable> nextVariable : variables.entrySet()) {
+            if(positive.contains(nextVariable.getValue())) install.add(nextVariable.getKey());
+        }
+
+        return new Candidate(install, Solver.calculateModelScore(install, Solver.getSetDifference(component.packages, install), initialPackages));
+    }
+
+    private synchronized Candidate getBest() {
+        return best;
+    }
+
+    /**
+     * Keeps the candidate if it beats the best so far, as long as its packages can actually be installed in some order
+     */
+    private synchronized void offer(Candidate candidate) {
+        if(best != null && candidate.score >= best.score) return;
+
+        if(solver.canOrderInstalls(candidate.install, Solver.getSetDifference(component.packages, candidate.install), initialPackages)) {
+            best = candidate;
+            costHistory.add(new CostSample(System.currentTimeMillis() - startTime, candidate.score));
+        } else if(bestCircular == null || candidate.score < bestCircular.score) {
+            bestCircular = candidate;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package depsolver;
+
+class NonexistantDependencyException extends Exception {
+    public NonexistantDependencyException() {
+        super();
+    }
+}
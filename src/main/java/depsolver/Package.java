@@ -0,0 +1,52 @@
+package depsolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Package {
+  private String name;
+  private String version;
+  private Integer size;
+  private List<List<String>> depends = new ArrayList<>();
+  private List<String> conflicts = new ArrayList<>();
+  private final boolean frozen; // copies can be shared between threads, so nothing about them may change
+
+  public Package() {
+    this.frozen = false;
+  }
+
+  /**
+   * Copies a package, the copy can't be changed at all: its lists are unmodifiable and its setters throw
+   * @param p
+   */
+  public Package(Package p) {
+    this.frozen = true;
+    this.name = p.getName();
+    this.version = p.getVersion();
+    this.size = p.getSize();
+
+    List<List<String>> depends = new ArrayList<>();
+    for(List<String> nextDependency : p.getDepends()) depends.add(Collections.unmodifiableList(new ArrayList<>(nextDependency)));
+    this.depends = Collections.unmodifiableList(depends);
+    this.conflicts = Collections.unmodifiableList(new ArrayList<>(p.getConflicts()));
+  }
+
+  public String getName() { return name; }
+  public String getVersion() { return version; }
+  public Integer getSize() { return size; }
+  public List<List<String>> getDepends() { return depends; }
+  public List<String> getConflicts() { return conflicts; }
+  public void setName(String name) { checkNotFrozen(); this.name = name; }
+  public void setVersion(String version) { checkNotFrozen(); this.version = version; }
+  public void setSize(Integer size) { checkNotFrozen(); this.size = size; }
+  public void setDepends(List<List<String>> depends) { checkNotFrozen(); this.depends = depends; }
+  public void setConflicts(List<String> conflicts) { checkNotFrozen(); this.conflicts = conflicts; }
+
+  private void checkNotFrozen() {
+    if(frozen) throw new UnsupportedOperationException(this + " belongs to a repository and can't be changed");
+  }
+
+  @Override
+  public String toString() { return name + "=" + version; }
+}
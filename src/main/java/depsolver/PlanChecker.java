@@ -0,0 +1,105 @@
+package depsolver;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Replays a list of commands on the initial state and checks that every state on the way is valid and the last one meets the constraints.
+ * PlanChecker repository.json initial.json constraints.json commands.json
+ * Prints what the commands cost and exits with 0, or prints the first problem and exits with 1.
+ */
+public class PlanChecker {
+    private final Repository repository;
+
+    PlanChecker(Repository repository) {
+        this.repository = repository;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 4) {
+            System.err.println("usage: PlanChecker repository.json initial.json constraints.json commands.json");
+            System.exit(2);
+        }
+
+        TypeReference<List<String>> strListType = new TypeReference<List<String>>() {};
+        Repository repository = Repository.fromJson(Main.readFile(args[0]));
+        List<String> initial = JSON.parseObject(Main.readFile(args[1]), strListType);
+        List<String> constraints = JSON.parseObject(Main.readFile(args[2]), strListType);
+        List<String> commands = JSON.parseObject(Main.readFile(args[3]), strListType);
+
+        try {
+            System.out.println(new PlanChecker(repository).check(initial, constraints, commands));
+        } catch(IllegalStateException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param initial
+     * @param constraints
+     * @param commands
+     * @return what running the commands costs
+     * @throws IllegalStateException describing the first command that leaves an invalid state, or the first constraint that isn't met at the end
+     */
+    long check(List<String> initial, List<String> constraints, List<String> commands) {
+        Set<Package> state = new HashSet<>();
+        for(String nextInitial : initial) state.add(getKnownPackage(nextInitial));
+
+        long cost = 0L;
+        for(String nextCommand : commands) {
+            Package p = getKnownPackage(nextCommand.substring(1));
+
+            if(nextCommand.charAt(0) == '+') {
+                state.add(p);
+                cost += p.getSize();
+            } else {
+                state.remove(p);
+                cost += 1000000L;
+            }
+
+            String problem = findProblem(state);
+            if(problem != null) throw new IllegalStateException("invalid after " + nextCommand + ": " + problem);
+        }
+
+        for(String nextConstraint : constraints) {
+            boolean met = !Collections.disjoint(repository.getMatchingPackages(nextConstraint.substring(1)), state);
+            if(met != (nextConstraint.charAt(0) == '+')) throw new IllegalStateException("constraint " + nextConstraint + " isn't met");
+        }
+
+        return cost;
+    }
+
+    private String findProblem(Set<Package> state) {
+        for(Package p : state) {
+            for(List<String> nextDependency : p.getDepends()) {
+                boolean met = false;
+                for(String nextAlternative : nextDependency) {
+                    if(!Collections.disjoint(repository.getMatchingPackages(nextAlternative), state)) {
+                        met = true;
+                        break;
+                    }
+                }
+
+                if(!met) return p + " depends on one of " + nextDependency;
+            }
+
+            for(String nextConflict : p.getConflicts()) {
+                for(Package q : repository.getMatchingPackages(nextConflict)) {
+                    if(q != p && state.contains(q)) return p + " conflicts with " + q;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private Package getKnownPackage(String packageString) {
+        Package p = repository.getPackage(packageString);
+        if(p == null) throw new IllegalStateException(packageString + " isn't in the repository");
+        return p;
+    }
+}
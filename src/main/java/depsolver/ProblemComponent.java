@@ -0,0 +1,14 @@
+package depsolver;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * A part of the request whose packages never depend on or conflict with packages from any other part
+ */
+class ProblemComponent {
+    Set<Package> packages = new HashSet<>();
+    LinkedHashMap<String, Set<Package>> constraints = new LinkedHashMap<>(); // the +/- constraints (or the part of them) that fall into this component
+    Set<Package> unexpanded = new HashSet<>(); // only here because something conflicts with them or rules them out, and not installed to begin with, so they stay uninstalled
+}
@@ -0,0 +1,158 @@
+package depsolver;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable package repository. The packages are copied on construction, and the copies it hands out can't be changed, so one instance can be shared by any number of solver threads.
+ */
+public final class Repository {
+    private final List<Package> packages;
+    private final Map<String, Set<Package>> packageVersions;
+    private final Map<String, Package> stringToPackageMappings;
+
+    public Repository(List<Package> repo) {
+        List<Package> packages = new ArrayList<>();
+        HashMap<String, Set<Package>> packageVersions = new HashMap<>();
+        HashMap<String, Package> stringToPackageMappings = new HashMap<>();
+
+        for(Package original : repo) {
+            Package p = new Package(original);
+            packages.add(p);
+            stringToPackageMappings.put(p.getName() + "=" + p.getVersion(), p);
+            Set<Package> versions = packageVersions.getOrDefault(p.getName(), new HashSet<>());
+            versions.add(p);
+            packageVersions.put(p.getName(), versions);
+        }
+
+        for(Map.Entry<String, Set<Package>> nextVersions : packageVersions.entrySet()) {
+            nextVersions.setValue(Collections.unmodifiableSet(nextVersions.getValue()));
+        }
+
+        this.packages = Collections.unmodifiableList(packages);
+        this.packageVersions = Collections.unmodifiableMap(packageVersions);
+        this.stringToPackageMappings = Collections.unmodifiableMap(stringToPackageMappings);
+    }
+
+    public static Repository fromJson(String json) {
+        TypeReference<List<Package>> repoType = new TypeReference<List<Package>>() {};
+        return new Repository(JSON.parseObject(json, repoType));
+    }
+
+    public List<Package> getPackages() { return packages; }
+    public Map<String, Set<Package>> getPackageVersions() { return packageVersions; }
+
+    /**
+     * @param packageString a package in the form name=version
+     * @return the package, or null if the repository doesn't have it
+     */
+    public Package getPackage(String packageString) {
+        return stringToPackageMappings.get(packageString);
+    }
+
+    /**
+     * Gets every package matching a single reference such as A, A=1, A>=1.2 or A<3
+     * @param c
+     * @return
+     */
+    public Set<Package> getMatchingPackages(String c) {
+        String packageName = "";
+
+        Predicate<Package> versionPredicate;
+        if(c.indexOf('>') > -1) {
+            if(c.indexOf('=') > -1) {
+                String versionNumber = c.substring(c.indexOf('=') + 1);
+                versionPredicate = (Package p) -> comparePackageVersions(versionNumber, p.getVersion()) >= 0;
+            } else {
+                String versionNumber = c.substring(c.indexOf('>') + 1);
+                versionPredicate = (Package p) -> comparePackageVersions(versionNumber, p.getVersion()) > 0;
+            }
+            packageName = c.substring(0, c.indexOf('>'));
+        } else if(c.indexOf('<') > -1) {
+            if(c.indexOf('=') > -1) {
+                String versionNumber = c.substring(c.indexOf('=') + 1);
+                versionPredicate = (Package p) -> comparePackageVersions(versionNumber, p.getVersion()) <= 0;
+            } else {
+                String versionNumber = c.substring(c.indexOf('<') + 1);
+                versionPredicate = (Package p) -> comparePackageVersions(versionNumber, p.getVersion()) < 0;
+            }
+            packageName = c.substring(0, c.indexOf('<'));
+        } else if(c.indexOf('=') > -1) {
+            String versionNumber = c.substring(c.indexOf('=') + 1);
+            versionPredicate = (Package p) -> comparePackageVersions(versionNumber, p.getVersion()) == 0;
+            packageName = c.substring(0, c.indexOf('='));
+        } else {
+            versionPredicate = (Package p) -> true;
+            packageName = c;
+        }
+
+        return packageVersions.getOrDefault(packageName, Collections.emptySet()).stream().filter(versionPredicate).collect(Collectors.toSet());
+    }
+
+    /**
+     * Extracts a set of packages from a string of package dependencies or conflicts
+     * @param packageString
+     * @return
+     */
+    Set<Set<Package>> getPackagesFromString(List<String> packageString) {
+        Set<Set<Package>> resultPackages = new HashSet<>();
+
+        for(String c : packageString) {
+            resultPackages.add(getMatchingPackages(c));
+        }
+
+        return resultPackages;
+    }
+
+    /**
+     * Extracts a set of packages from a string of package dependencies or conflicts, throws an exception if a package has dependencies that don't exist in the repository
+     * @param packageString
+     * @return
+     */
+    Set<Set<Package>> getPackagesFromStringWithException(List<String> packageString) throws NonexistantDependencyException {
+        Set<Set<Package>> resultPackages = new HashSet<>();
+
+        for(String c : packageString) {
+            Set<Package> matchingPackages = getMatchingPackages(c);
+
+            if(!matchingPackages.isEmpty())
+                resultPackages.add(matchingPackages);
+        }
+        if(resultPackages.isEmpty() && !packageString.isEmpty()) throw new NonexistantDependencyException();
+        return resultPackages;
+    }
+
+    static int comparePackageVersions(String a, String b) {
+        if(a.equals(b)) return 0;
+
+        String[] aSplit = a.split("\\.");
+        String[] bSplit = b.split("\\.");
+
+        int minLength = Math.min(aSplit.length, bSplit.length);
+
+        for(int i = 0; i <= minLength; i ++) {
+            if(i == aSplit.length && i == bSplit.length) {
+                return 0;
+            } else if(i == aSplit.length && i < bSplit.length) {
+                return 1;
+            } else if(i == bSplit.length && i < aSplit.length) {
+                return -1;
+            }
+
+            String aPart = aSplit[i];
+            String bPart = bSplit[i];
+
+            int aInt = Integer.parseInt(aPart);
+            int bInt = Integer.parseInt(bPart);
+
+            if(aInt > bInt) return -1;
+            else if(aInt < bInt) return 1;
+        }
+
+        return 0;
+    }
+}
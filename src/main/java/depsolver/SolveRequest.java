@@ -0,0 +1,72 @@
+package depsolver;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The initial state of a machine and the +/- constraints that the final state has to meet, plus how hard to look for the cheapest way there
+ */
+public final class SolveRequest {
+    /**
+     * How long the local search gets on each component when the request doesn't set a limit, the exact engine isn't limited at all then
+     */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 10000L;
+
+    private final List<String> initial;
+    private final List<String> constraints;
+    private final Engine engine;
+    private final int threads;
+    private final Long timeLimitMillis; // null unless the caller set one
+
+    public SolveRequest(List<String> initial, List<String> constraints) {
+        this(initial, constraints, Engine.EXACT, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    private SolveRequest(List<String> initial, List<String> constraints, Engine engine, int threads, Long timeLimitMillis) {
+        this.initial = Collections.unmodifiableList(new ArrayList<>(initial));
+        this.constraints = Collections.unmodifiableList(new ArrayList<>(constraints));
+        this.engine = engine;
+        this.threads = threads;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public static SolveRequest fromJson(String initialJson, String constraintsJson) {
+        TypeReference<List<String>> strListType = new TypeReference<List<String>>() {};
+        return new SolveRequest(JSON.parseObject(initialJson, strListType), JSON.parseObject(constraintsJson, strListType));
+    }
+
+    public SolveRequest withEngine(Engine engine) {
+        return new SolveRequest(initial, constraints, engine, threads, timeLimitMillis);
+    }
+
+    /**
+     * @param threads how many threads the local search runs on for each component
+     * @return
+     */
+    public SolveRequest withThreads(int threads) {
+        return new SolveRequest(initial, constraints, engine, threads, timeLimitMillis);
+    }
+
+    /**
+     * @param timeLimitMillis how long the local search may spend on each component, and how long the exact engine may keep enumerating models for, which it otherwise does until it has them all
+     * @return
+     */
+    public SolveRequest withTimeLimit(long timeLimitMillis) {
+        return new SolveRequest(initial, constraints, engine, threads, timeLimitMillis);
+    }
+
+    public List<String> getInitial() { return initial; }
+    public List<String> getConstraints() { return constraints; }
+    public Engine getEngine() { return engine; }
+    public int getThreads() { return threads; }
+
+    /**
+     * @return the time limit set with {@link #withTimeLimit}, or {@link #DEFAULT_TIME_LIMIT_MILLIS} if there isn't one
+     */
+    public long getTimeLimitMillis() { return timeLimitMillis != null ? timeLimitMillis : DEFAULT_TIME_LIMIT_MILLIS; }
+    public boolean hasTimeLimit() { return timeLimitMillis != null; }
+}
@@ -0,0 +1,100 @@
+package depsolver;
+
+import com.alibaba.fastjson.JSON;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The commands that take a machine from its initial state to one meeting the constraints, along with their cost and some numbers about the solve
+ */
+public final class SolveResult {
+    private final boolean solved;
+    private final List<String> commands;
+    private final long cost;
+    private final int components;
+    private final long modelsEnumerated;
+    private final long elapsedMillis;
+    private final List<String> conflictingConstraints;
+    private final List<String> conflictingPackages;
+    private final List<CostSample> costHistory;
+    private final boolean timedOut;
+
+    SolveResult(boolean solved, List<String> commands, long cost, int components, long modelsEnumerated, long elapsedMillis) {
+        this(solved, commands, cost, components, modelsEnumerated, elapsedMillis, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), false);
+    }
+
+    SolveResult(boolean solved, List<String> commands, long cost, int components, long modelsEnumerated, long elapsedMillis, List<CostSample> costHistory, boolean timedOut) {
+        this(solved, commands, cost, components, modelsEnumerated, elapsedMillis, Collections.emptyList(), Collections.emptyList(), costHistory, timedOut);
+    }
+
+    SolveResult(boolean solved, List<String> commands, long cost, int components, long modelsEnumerated, long elapsedMillis, List<String> conflictingConstraints, List<String> conflictingPackages) {
+        this(solved, commands, cost, components, modelsEnumerated, elapsedMillis, conflictingConstraints, conflictingPackages, Collections.emptyList(), false);
+    }
+
+    private SolveResult(boolean solved, List<String> commands, long cost, int components, long modelsEnumerated, long elapsedMillis, List<String> conflictingConstraints, List<String> conflictingPackages, List<CostSample> costHistory, boolean timedOut) {
+        this.solved = solved;
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+        this.cost = cost;
+        this.components = components;
+        this.modelsEnumerated = modelsEnumerated;
+        this.elapsedMillis = elapsedMillis;
+        this.conflictingConstraints = Collections.unmodifiableList(new ArrayList<>(conflictingConstraints));
+        this.conflictingPackages = Collections.unmodifiableList(new ArrayList<>(conflictingPackages));
+        this.costHistory = Collections.unmodifiableList(new ArrayList<>(costHistory));
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return false if no valid final state could be found, the commands are empty in that case
+     */
+    public boolean isSolved() { return solved; }
+
+    /**
+     * @return commands in the form +name=version or -name=version, in the order they have to be run
+     */
+    public List<String> getCommands() { return commands; }
+    public long getCost() { return cost; }
+    public int getComponents() { return components; }
+
+    /**
+     * @return how many models the exact engine enumerated, or how many neighbourhoods the local search solved
+     */
+    public long getModelsEnumerated() { return modelsEnumerated; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * @return when the constraints can't be met, the +/- constraints from a minimal set that can't all hold together
+     */
+    public List<String> getConflictingConstraints() { return conflictingConstraints; }
+
+    /**
+     * @return when the constraints can't be met, the name=version of the packages whose dependencies and conflicts make up the rest of that set
+     */
+    public List<String> getConflictingPackages() { return conflictingPackages; }
+
+    /**
+     * @return for the local search, the cost of the best state found so far each time it improved, for the greedy engine the cost of its plan, and nothing for the exact engine
+     */
+    public List<CostSample> getCostHistory() { return costHistory; }
+
+    /**
+     * @return true if the exact engine ran out of time before it had enumerated every model, the commands then come from the cheapest model it did find
+     */
+    public boolean isTimedOut() { return timedOut; }
+
+    public String toJson() {
+        return JSON.toJSONString(commands);
+    }
+
+    public String explanationToJson() {
+        Map<String, Object> explanation = new LinkedHashMap<>();
+        explanation.put("satisfiable", solved);
+        explanation.put("constraints", conflictingConstraints);
+        explanation.put("packages", conflictingPackages);
+        return JSON.toJSONString(explanation);
+    }
+}
@@ -0,0 +1,963 @@
+package depsolver;
+
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.explanations.unsatcores.MUSGeneration;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+import org.logicng.propositions.Proposition;
+import org.logicng.propositions.StandardProposition;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+import org.logicng.solvers.sat.MiniSatConfig;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Solves requests against a single repository. Holds no state besides the repository, so one instance can be used from many threads at once.
+ */
+public class Solver {
+    private final Repository repository;
+
+    /**
+     * A component's propositions already loaded into a SAT solver, so the models can be enumerated on the same solver that checked them
+     */
+    private static class ComponentSolver {
+        final FormulaFactory f;
+        final SATSolver miniSat;
+        final boolean satisfiable;
+
+        ComponentSolver(FormulaFactory f, SATSolver miniSat, boolean satisfiable) {
+            this.f = f;
+            this.miniSat = miniSat;
+            this.satisfiable = satisfiable;
+        }
+    }
+
+    public Solver(Repository repository) {
+        this.repository = repository;
+    }
+
+    public Repository getRepository() { return repository; }
+
+  public SolveResult solve(SolveRequest request) {
+    long startTime = System.currentTimeMillis();
+
+    Set<Package> initialPackages = getInitialPackages(request);
+
+//    finalInstalled = removeInitiallySatisfiedConstraints(initialPackages, finalInstalled, finalDoNotInstall);
+
+    List<ProblemComponent> components = getIndependentComponents(getConstraintPackages(request), initialPackages);
+
+    Map<ProblemComponent, ComponentSolver> componentSolvers = new ConcurrentHashMap<>();
+    if(request.getEngine() != Engine.GREEDY) { // the greedy plan doesn't need the SAT solver, so its components only get checked if the plan gets stuck
+        // no point enumerating anything if one of the components can't be satisfied at all
+        // the local search encodes a component again for each of its workers, so only the solvers of the small components it just enumerates are worth keeping
+        Predicate<ProblemComponent> keepSolver = request.getEngine() == Engine.LOCAL_SEARCH ? nextComponent -> nextComponent.packages.size() <= LocalSearch.NEIGHBOURHOOD_SIZE : nextComponent -> true;
+        Optional<ProblemComponent> unsatisfiable = findUnsatisfiableComponent(components, componentSolvers, keepSolver);
+        if(unsatisfiable.isPresent()) {
+            return getUnsatisfiableResult(unsatisfiable.get(), components.size(), startTime);
+        }
+    }
+
+    List<ComponentSolution> solutions;
+    if(request.getEngine() == Engine.LOCAL_SEARCH) {
+        // the local search is multithreaded already, so the components take turns
+        solutions = components.stream()
+                .map(nextComponent -> solveComponentLocalSearch(nextComponent, initialPackages, new ComponentGraph(repository, nextComponent), componentSolvers.get(nextComponent), request, startTime))
+                .collect(Collectors.toList());
+    } else if(request.getEngine() == Engine.GREEDY) {
+        solutions = components.stream()
+                .map(nextComponent -> solveComponentGreedy(nextComponent, initialPackages, componentSolvers, request, startTime))
+                .collect(Collectors.toList());
+    } else {
+        // components share no packages, so they can be solved at the same time and their commands just joined up
+        solutions = components.parallelStream()
+                .map(nextComponent -> solveComponent(nextComponent, initialPackages, componentSolvers.get(nextComponent), getExactDeadline(request, startTime)))
+                .collect(Collectors.toList());
+    }
+
+    if(solutions.contains(null)) {
+        Optional<ProblemComponent> unsatisfiable = components.stream()
+                .filter(nextComponent -> componentSolvers.containsKey(nextComponent) && !componentSolvers.get(nextComponent).satisfiable)
+                .findFirst();
+        if(unsatisfiable.isPresent()) {
+            return getUnsatisfiableResult(unsatisfiable.get(), components.size(), startTime);
+        }
+
+        return new SolveResult(false, Collections.emptyList(), 0L, components.size(), 0L, System.currentTimeMillis() - startTime);
+    }
+
+    List<String> commands = new LinkedList<>();
+    List<CostSample> costHistory = new LinkedList<>();
+    long modelsEnumerated = 0L;
+    long solvedComponentsCost = 0L;
+    boolean timedOut = false;
+    for(ComponentSolution nextSolution : solutions) {
+        commands.addAll(nextSolution.commands);
+        modelsEnumerated += nextSolution.modelsEnumerated;
+        timedOut |= nextSolution.timedOut;
+
+        // each component's history only knows about its own cost, add on the components that finished before it
+        for(CostSample nextSample : nextSolution.costHistory) {
+            costHistory.add(new CostSample(nextSample.getElapsedMillis(), solvedComponentsCost + nextSample.getCost()));
+        }
+        solvedComponentsCost += calculateCommandsCost(nextSolution.commands);
+    }
+
+    return new SolveResult(true, commands, calculateCommandsCost(commands), components.size(), modelsEnumerated, System.currentTimeMillis() - startTime, costHistory, timedOut);
+  }
+
+    /**
+     * Only checks whether the constraints can be met at all, without looking for the cheapest way to do it
+     * @param request
+     * @return a result with no commands, explaining the conflict if there is one
+     */
+  public SolveResult check(SolveRequest request) {
+      long startTime = System.currentTimeMillis();
+
+      List<ProblemComponent> components = getIndependentComponents(getConstraintPackages(request), getInitialPackages(request));
+
+      Optional<ProblemComponent> unsatisfiable = findUnsatisfiableComponent(components, new ConcurrentHashMap<>(), nextComponent -> false);
+      if(unsatisfiable.isPresent()) {
+          return getUnsatisfiableResult(unsatisfiable.get(), components.size(), startTime);
+      }
+
+      return new SolveResult(true, Collections.emptyList(), 0L, components.size(), 0L, System.currentTimeMillis() - startTime);
+  }
+
+  private Set<Package> getInitialPackages(SolveRequest request) {
+      return request.getInitial().stream().map(repository::getPackage).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
+
+    /**
+     * @param request
+     * @param from
+     * @return when the exact engine has to stop enumerating, which is never unless the request sets a time limit
+     */
+  private static long getExactDeadline(SolveRequest request, long from) {
+      return request.hasTimeLimit() ? from + request.getTimeLimitMillis() : Long.MAX_VALUE;
+  }
+
+    /**
+     * Maps every constraint, +/- sign included, onto the repository packages that match it
+     * @param request
+     * @return
+     */
+  private LinkedHashMap<String, Set<Package>> getConstraintPackages(SolveRequest request) {
+      LinkedHashMap<String, Set<Package>> constraints = new LinkedHashMap<>();
+
+      for(String c : request.getConstraints()) {
+          constraints.put(c, repository.getMatchingPackages(c.substring(1)));
+      }
+
+      return constraints;
+  }
+
+    /**
+     * @param components
+     * @param componentSolvers gets the solver of every checked component that keepSolver accepts, so solving it later doesn't have to encode it all over again
+     * @param keepSolver
+     * @return
+     */
+  private Optional<ProblemComponent> findUnsatisfiableComponent(List<ProblemComponent> components, Map<ProblemComponent, ComponentSolver> componentSolvers, Predicate<ProblemComponent> keepSolver) {
+      return components.parallelStream().filter(nextComponent -> {
+          ComponentSolver componentSolver = getComponentSolver(nextComponent);
+          if(keepSolver.test(nextComponent)) componentSolvers.put(nextComponent, componentSolver);
+          return !componentSolver.satisfiable;
+      }).findAny();
+  }
+
+  private SolveResult getUnsatisfiableResult(ProblemComponent component, int components, long startTime) {
+      List<String> conflictingConstraints = new LinkedList<>();
+      List<String> conflictingPackages = new LinkedList<>();
+
+      for(String nextReason : explainUnsatisfiable(component)) {
+          if(nextReason.charAt(0) == '+' || nextReason.charAt(0) == '-') conflictingConstraints.add(nextReason);
+          else conflictingPackages.add(nextReason);
+      }
+
+      return new SolveResult(false, Collections.emptyList(), 0L, components, 0L, System.currentTimeMillis() - startTime, conflictingConstraints, conflictingPackages);
+  }
+
+    /**
+     * Splits the request along the connected components of the dependency and conflict graph of the packages we care about
+     * @param constraints
+     * @param initialPackages
+     * @return
+     */
+  private List<ProblemComponent> getIndependentComponents(LinkedHashMap<String, Set<Package>> constraints, Set<Package> initialPackages) {
+      Set<Package> packagesWeCareAbout = new HashSet<>();
+      Set<Package> alreadyExpanded = new HashSet<>();
+
+      for(Map.Entry<String, Set<Package>> nextConstraint : constraints.entrySet()) {
+          if(nextConstraint.getKey().charAt(0) == '+') {
+              for(Package nextInstallOr : nextConstraint.getValue()) {
+                  getPackagesWeCareAbout(nextInstallOr, packagesWeCareAbout, alreadyExpanded);
+              }
+          } else {
+              packagesWeCareAbout.addAll(nextConstraint.getValue());
+          }
+      }
+
+      HashMap<Package, Package> parents = new HashMap<>();
+      for(Package p : packagesWeCareAbout) parents.put(p, p);
+
+      for(Package p : packagesWeCareAbout) {
+          Set<Set<Package>> neighbours = repository.getPackagesFromString(p.getConflicts());
+          for(List<String> nextDependencyRaw : p.getDepends()) {
+              neighbours.addAll(repository.getPackagesFromString(nextDependencyRaw));
+          }
+
+          for(Set<Package> nextNeighbourOuter : neighbours) {
+              for(Package nextNeighbourInner : nextNeighbourOuter) {
+                  if(packagesWeCareAbout.contains(nextNeighbourInner)) unionComponents(p, nextNeighbourInner, parents);
+              }
+          }
+      }
+
+      LinkedHashMap<Package, ProblemComponent> components = new LinkedHashMap<>();
+      List<ProblemComponent> result = new LinkedList<>();
+
+      for(Map.Entry<String, Set<Package>> nextConstraint : constraints.entrySet()) {
+          Set<Package> nextInstallAnd = nextConstraint.getValue();
+          if(nextConstraint.getKey().charAt(0) != '+') continue;
+
+          if(nextInstallAnd.isEmpty()) {
+              // nothing can satisfy this one, give it a component of its own so that it comes out unsatisfiable
+              ProblemComponent impossible = new ProblemComponent();
+              impossible.constraints.put(nextConstraint.getKey(), nextInstallAnd);
+              result.add(impossible);
+              continue;
+          }
+
+          Package first = nextInstallAnd.iterator().next();
+          for(Package nextInstallOr : nextInstallAnd) unionComponents(first, nextInstallOr, parents);
+      }
+
+      for(Package p : packagesWeCareAbout) {
+          ProblemComponent component = components.computeIfAbsent(findComponent(p, parents), k -> new ProblemComponent());
+          component.packages.add(p);
+          // their dependencies were never looked at, so they may lie outside the component where nothing holds them to anything
+          if(!alreadyExpanded.contains(p) && !initialPackages.contains(p)) component.unexpanded.add(p);
+      }
+
+      for(Map.Entry<String, Set<Package>> nextConstraint : constraints.entrySet()) {
+          if(nextConstraint.getValue().isEmpty()) continue;
+
+          if(nextConstraint.getKey().charAt(0) == '+') {
+              components.get(findComponent(nextConstraint.getValue().iterator().next(), parents)).constraints.put(nextConstraint.getKey(), nextConstraint.getValue());
+          } else {
+              // the versions a - constraint rules out can end up in different components
+              for(Package nextDoNotInstall : nextConstraint.getValue()) {
+                  components.get(findComponent(nextDoNotInstall, parents)).constraints.computeIfAbsent(nextConstraint.getKey(), k -> new HashSet<>()).add(nextDoNotInstall);
+              }
+          }
+      }
+
+      result.addAll(components.values());
+      return result;
+  }
+
+  private static Package findComponent(Package p, Map<Package, Package> parents) {
+      Package root = p;
+      while(parents.get(root) != root) root = parents.get(root);
+
+      while(parents.get(p) != root) { // path compression
+          Package next = parents.get(p);
+          parents.put(p, root);
+          p = next;
+      }
+
+      return root;
+  }
+
+  private static void unionComponents(Package a, Package b, Map<Package, Package> parents) {
+      Package rootA = findComponent(a, parents);
+      Package rootB = findComponent(b, parents);
+      if(rootA != rootB) parents.put(rootA, rootB);
+  }
+
+    /**
+     * Finds the cheapest valid state for a single component and the commands to get there, falling back to the greedy plan if none of the models can be put in order
+     * @param component
+     * @param initialPackages
+     * @param componentSolver the solver the component was checked on
+     * @param deadline when to stop enumerating, the cheapest of the models found by then is used
+     * @return the solution, or null if the component can't be satisfied
+     */
+  private ComponentSolution solveComponent(ProblemComponent component, Set<Package> initialPackages, ComponentSolver componentSolver, long deadline) {
+      ComponentSolution exact = enumerateComponent(component, initialPackages, componentSolver, deadline);
+      // the exact search can come up empty handed when every cheap model has a circle in it, the greedy plan might still get there
+      return exact != null ? exact : getGreedySolution(component, initialPackages, new ComponentGraph(repository, component));
+  }
+
+  private ComponentSolution enumerateComponent(ProblemComponent component, Set<Package> initialPackages, ComponentSolver componentSolver, long deadline) {
+    List<Assignment> validModels = getValidStates(component, componentSolver, deadline);
+    boolean timedOut = System.currentTimeMillis() >= deadline;
+
+    Set<Package> lowestScoreInstalls = null;
+    Set<Package> lowestScoreDoNotInstalls = null;
+
+    Set<Package> lowestScoreInstallsWithCircular = null;
+    Set<Package> lowestScoreDoNotInstallsWithCircular = null;
+    Set<Package> lowestScoreCirculars = null;
+    Long lowestScoreWithCircular = null;
+
+    Long lowestScore = Long.MAX_VALUE;
+
+    for(Assignment nextModel : validModels) {
+        Set<Package> install = nextModel.positiveLiterals().stream().map(v -> repository.getPackage(v.name())).collect(Collectors.toSet());
+        Set<Package> doNotInstall = nextModel.negativeVariables().stream().map(v -> repository.getPackage(v.name())).collect(Collectors.toSet());
+
+        Long score = calculateModelScore(install, doNotInstall, initialPackages);
+
+        if(score <= lowestScore) {
+            try {
+                LinkedHashSet<Package> orderedInstalls = getOrderOfInstallsFast(install, doNotInstall, initialPackages);
+                if(orderedInstalls == null) continue; // leaves a dependency unmet, so it can't be installed at all
+
+                lowestScoreInstalls = orderedInstalls;
+                lowestScoreDoNotInstalls = doNotInstall;
+                lowestScore = score;
+            } catch(CircularDependencyException e) {
+                lowestScoreDoNotInstallsWithCircular = doNotInstall;
+                lowestScoreCirculars = e.circularPackages;
+                lowestScoreInstallsWithCircular = getSetDifference(install, lowestScoreCirculars);
+                lowestScoreWithCircular = score;
+            }
+        }
+    }
+
+    if(validModels.isEmpty() || lowestScoreInstalls == null) {
+        if(lowestScoreCirculars != null) {
+            List<String> circularCommands = tryResolveCircular(initialPackages, lowestScoreInstallsWithCircular, lowestScoreDoNotInstallsWithCircular, lowestScoreCirculars);
+            if(circularCommands == null) return null;
+
+            ComponentSolution solution = new ComponentSolution(circularCommands, validModels.size());
+            solution.timedOut = timedOut;
+            return solution;
+        } else {
+            return null;
+        }
+    }
+
+
+//    LinkedList<Package> installs = getOrderOfInstallsSlow(initialPackages, lowestScoreInstalls);
+
+    ComponentSolution solution = new ComponentSolution(getCommands(lowestScoreInstalls, lowestScoreDoNotInstalls, initialPackages), validModels.size());
+    solution.timedOut = timedOut;
+    return solution;
+  }
+
+    /**
+     * Same as solveComponent, but the final state comes from a local search instead of enumerating every model, so it isn't necessarily the cheapest
+     * @param component
+     * @param initialPackages
+     * @param componentSolver the solver the component was checked on, only used when the component is small enough to enumerate and may be null otherwise
+     * @param request
+     * @param startTime
+     * @return the solution, or null if the component can't be satisfied
+     */
+  private ComponentSolution solveComponentLocalSearch(ProblemComponent component, Set<Package> initialPackages, ComponentGraph graph, ComponentSolver componentSolver, SolveRequest request, long startTime) {
+      if(component.packages.size() <= LocalSearch.NEIGHBOURHOOD_SIZE) { // small enough to just enumerate
+          ComponentSolution solution = solveComponent(component, initialPackages, componentSolver, getExactDeadline(request, System.currentTimeMillis()));
+          if(solution != null) solution.costHistory.add(new CostSample(System.currentTimeMillis() - startTime, calculateCommandsCost(solution.commands)));
+          return solution;
+      }
+
+      // the greedy plan gives the search a cheap valid state to start from instead of whatever the SAT solver finds first
+      Set<Package> hint = new GreedyPlanner(graph, component, initialPackages).plan();
+
+      LocalSearch localSearch = new LocalSearch(this, graph, component, initialPackages, hint, request.getThreads(), request.getTimeLimitMillis(), startTime);
+      LocalSearch.Candidate best = localSearch.run();
+      if(best == null) return null;
+
+      List<String> commands = getOrderedCommands(best.install, component, initialPackages);
+      if(commands == null) return null;
+
+      ComponentSolution solution = new ComponentSolution(commands, localSearch.getNeighbourhoodsSolved());
+      solution.costHistory = localSearch.getCostHistory();
+      return solution;
+  }
+
+    /**
+     * Uses the greedy plan for the component, and only falls back to the local search if the plan gets stuck
+     * @param component
+     * @param initialPackages
+     * @param componentSolvers gets the solver of the component if the plan got stuck and the component turned out unsatisfiable
+     * @param request
+     * @param startTime
+     * @return the solution, or null if the component can't be satisfied
+     */
+  private ComponentSolution solveComponentGreedy(ProblemComponent component, Set<Package> initialPackages, Map<ProblemComponent, ComponentSolver> componentSolvers, SolveRequest request, long startTime) {
+      ComponentGraph graph = new ComponentGraph(repository, component);
+
+      ComponentSolution solution = getGreedySolution(component, initialPackages, graph);
+      if(solution != null) {
+          solution.costHistory.add(new CostSample(System.currentTimeMillis() - startTime, calculateCommandsCost(solution.commands)));
+          return solution;
+      }
+
+      // only now is it worth asking the SAT solver whether the component can be met at all
+      ComponentSolver componentSolver = getComponentSolver(component);
+      if(!componentSolver.satisfiable) {
+          componentSolvers.put(component, componentSolver);
+          return null;
+      }
+
+      // the local search only uses the solver for components small enough to enumerate, and can let go of it otherwise
+      boolean enumerate = component.packages.size() <= LocalSearch.NEIGHBOURHOOD_SIZE;
+      return solveComponentLocalSearch(component, initialPackages, graph, enumerate ? componentSolver : null, request, startTime);
+  }
+
+  private ComponentSolution getGreedySolution(ProblemComponent component, Set<Package> initialPackages, ComponentGraph graph) {
+      Set<Package> install = new GreedyPlanner(graph, component, initialPackages).plan();
+      if(install == null) return null;
+
+      List<String> commands = getOrderedCommands(install, component, initialPackages);
+      if(commands == null) return null;
+
+      return new ComponentSolution(commands, 0L);
+  }
+
+    /**
+     * Puts a final state for the component in install order, breaking a circle if there is one
+     * @param install
+     * @param component
+     * @param initialPackages
+     * @return the commands, or null if it couldn't be put in order
+     */
+  private List<String> getOrderedCommands(Set<Package> install, ProblemComponent component, Set<Package> initialPackages) {
+      Set<Package> doNotInstall = getSetDifference(component.packages, install);
+
+      try {
+          LinkedHashSet<Package> orderedInstalls = getOrderOfInstallsFast(install, doNotInstall, initialPackages);
+          return orderedInstalls == null ? null : getCommands(orderedInstalls, doNotInstall, initialPackages);
+      } catch(CircularDependencyException e) {
+          return tryResolveCircular(initialPackages, getSetDifference(install, e.circularPackages), doNotInstall, e.circularPackages);
+      }
+  }
+
+    /**
+     * Uninstalls whatever initial packages have to go, then installs the rest in order
+     * @param orderedInstalls
+     * @param doNotInstall
+     * @param initialPackages
+     * @return
+     */
+  private static List<String> getCommands(Set<Package> orderedInstalls, Set<Package> doNotInstall, Set<Package> initialPackages) {
+    Set<Package> uninstalls = getSetIntersection(doNotInstall, initialPackages);
+    Set<Package> remainingInitial = getSetDifference(initialPackages, uninstalls);
+
+    List<String> commands = new LinkedList<>();
+    for(Package nextUninstall : uninstalls) {
+        commands.add(constructStringForInstall(nextUninstall, false));
+    }
+
+    for(Package nextInstall : orderedInstalls) {
+        if(!remainingInitial.contains(nextInstall)) commands.add(constructStringForInstall(nextInstall, true));
+    }
+
+    return commands;
+  }
+
+  private static Set<Set<Package>> removeInitiallySatisfiedConstraints(Set<Package> initial, Set<Set<Package>> installConstraints, Set<Package> doNotInstallConstraints) {
+      Set<Set<Package>> result = new HashSet<>();
+    for(Set<Package> nextInstallConstraintAnd : installConstraints) {
+        boolean definitelySatisfied = true;
+        for(Package nextInstallConstraintOr : nextInstallConstraintAnd) {
+            if(!initial.contains(nextInstallConstraintOr)) {
+                definitelySatisfied = false;
+                break;
+            }
+        }
+
+        if(!definitelySatisfied) {
+            result.add(nextInstallConstraintAnd);
+        }
+    }
+
+    return result;
+  }
+
+    /**
+     * This currently only works under very limited circumstances - initial is empty, package required to break circle doesn't conflict with any existing ones, and there's only two circular guys
+     * @param initial
+     * @param install
+     * @param circulars
+     * @return the commands that get around the circle, or null if it couldn't be done
+     */
+  private List<String> tryResolveCircular(Set<Package> initial, Set<Package> install, Set<Package> doNotInstall, Set<Package> circulars) {
+      if(circulars.size() != 2) {
+          return null;
+      }
+
+      LinkedList<String> result = new LinkedList<>();
+
+      LinkedList<Package> installedPackages = new LinkedList<>();
+
+      LinkedList<Package> packageQueue = new LinkedList<>(install);
+
+      while(!packageQueue.isEmpty()) {
+          Package p = packageQueue.pollFirst();
+
+          if(hasUnmetDependencies(p, installedPackages)) {
+              packageQueue.addLast(p);
+          } else {
+              installedPackages.add(p);
+              result.add(constructStringForInstall(p, true));
+          }
+      }
+
+      List<Package> circularsAsList = new ArrayList<>(circulars);
+
+      Package circular1 = circularsAsList.get(0);
+      Package circular2 = circularsAsList.get(1);
+
+      List<List<String>> circular1DependenciesRaw = circular1.getDepends();
+
+      for(List<String> nextCircular1DependencyRaw : circular1DependenciesRaw) {
+          Set<Set<Package>> nextCircular1Dependency = repository.getPackagesFromString(nextCircular1DependencyRaw);
+          boolean dependencyMet = false;
+
+          for(Set<Package> nextCircular1DependencyOuter : nextCircular1Dependency) {
+              for(Package nextCircular1DependencyInner : nextCircular1DependencyOuter) {
+                  if(installedPackages.contains(nextCircular1DependencyInner)) {
+                      dependencyMet = true;
+                      break;
+                  }
+
+                  if(dependencyMet) break;
+              }
+          }
+
+          if(!dependencyMet) {
+              for(Set<Package> nextUnmetDependencyOuter : nextCircular1Dependency) {
+                  for(Package nextUnmetDependencyInner : nextUnmetDependencyOuter) {
+                      if(nextUnmetDependencyInner != circular2) {
+                          Set<Package> previouslyInstalledConflicts = new HashSet<>();
+
+                          for(Package p : installedPackages) {
+                              List<String> conflictsRaw = p.getConflicts();
+                              Set<Set<Package>> conflicts = repository.getPackagesFromString(conflictsRaw);
+
+                              for(Set<Package> nextConflictOuter : conflicts) {
+                                  for(Package nextConflictInner : nextConflictOuter) {
+                                      if(nextConflictInner == nextUnmetDependencyInner) {
+                                          previouslyInstalledConflicts.add(p);
+                                      }
+                                  }
+                              }
+                          }
+
+                          for(Package nextPreviouslyInstalledConflict : previouslyInstalledConflicts) {
+                              result.add(constructStringForInstall(nextPreviouslyInstalledConflict, false));
+                          }
+                          result.add(constructStringForInstall(nextUnmetDependencyInner, true));
+                          result.add(constructStringForInstall(circular1, true));
+                          result.add(constructStringForInstall(circular2, true));
+                          result.add(constructStringForInstall(nextUnmetDependencyInner, false));
+
+                          for(Package nextPreviouslyInstalledConflict : previouslyInstalledConflicts) {
+                              result.add(constructStringForInstall(nextPreviouslyInstalledConflict, true));
+                          }
+
+                          return result;
+                      }
+                  }
+              }
+          }
+      }
+
+      return null;
+  }
+
+  private LinkedList getOrderOfInstallsSlow(Set<Package> initial, Set<Package> install) {
+      LinkedList<Package> packageQueue = new LinkedList<>(install);
+
+      LinkedList<Package> result = new LinkedList<>(initial);
+
+      while(!packageQueue.isEmpty()) {
+          Package p = packageQueue.pollFirst();
+
+          if(hasUnmetDependencies(p, result)) {
+              packageQueue.addLast(p);
+          } else {
+              result.add(p);
+          }
+      }
+
+      return result;
+  }
+
+  private boolean hasUnmetDependencies(Package p, List<Package> installed) {
+      List<List<String>> packageDependenciesRaw = p.getDepends();
+
+      for(List<String> nextDependencyRawAnd : packageDependenciesRaw) {
+          boolean satisfied = false;
+
+          Set<Set<Package>> nextDependencyAnd = repository.getPackagesFromString(nextDependencyRawAnd);
+
+          for(Set<Package> nextDependencyOrOuter : nextDependencyAnd) {
+              boolean found = false;
+
+              for(Package nextDependencyOrInner : nextDependencyOrOuter) {
+                  if(installed.contains(nextDependencyOrInner)) {
+                      found = true;
+                      break;
+                  }
+              }
+
+              if(found) {
+                  satisfied = true;
+                  break;
+              }
+          }
+
+          if(!satisfied) {
+              return true;
+          }
+      }
+
+      return false;
+  }
+
+  boolean canOrderInstalls(Set<Package> install, Set<Package> doNotInstall, Set<Package> initialPackages) {
+      try {
+          return getOrderOfInstallsFast(install, doNotInstall, initialPackages) != null;
+      } catch(CircularDependencyException e) {
+          return false;
+      }
+  }
+
+    /**
+     * Puts the installs in an order where each package's dependencies are already there when it goes in
+     * @param install
+     * @param doNotInstall
+     * @param initialPackages
+     * @return the installs in order, or null if some dependency is met neither by the installs nor by an initial package that stays
+     * @throws CircularDependencyException
+     */
+  private LinkedHashSet<Package> getOrderOfInstallsFast(Set<Package> install, Set<Package> doNotInstall, Set<Package> initialPackages) throws CircularDependencyException {
+      HashMap<Package, List<Package>> incomingEdges = new HashMap<>();
+      HashMap<Package, List<Package>> outgoingEdges = new HashMap<>();
+
+      Stack<Package> noIncomingEdges = new Stack<>();
+
+      LinkedList<Package> result = new LinkedList<>();
+
+      for(Package nextPackageToInstall : install) {
+          List<List<String>> rawDependencies = nextPackageToInstall.getDepends();
+
+          Set<Package> validDependenciesAnd = new HashSet<>();
+
+          for(List<String> nextRawDependencyAnd : rawDependencies) {
+                Set<Set<Package>> dependenciesOrOuter = repository.getPackagesFromString(nextRawDependencyAnd);
+
+                LinkedList<Package> validDependenciesOrOuter = new LinkedList<>();
+
+                for(Set<Package> nextDependencyOrOuter : dependenciesOrOuter) {
+                    LinkedList<Package> validDependenciesOrInner = new LinkedList<>();
+
+                    for(Package nextDependencyOrInner : nextDependencyOrOuter) {
+                        if(install.contains(nextDependencyOrInner) && !doNotInstall.contains(nextDependencyOrInner)) validDependenciesOrInner.add(nextDependencyOrInner); // we can stop as soon as we find one
+                    }
+
+                    if(!validDependenciesOrInner.isEmpty()) validDependenciesOrOuter.add(validDependenciesOrInner.getFirst()); // we only care about one that matches. we can stop as soon as we find one
+                }
+
+                if(!validDependenciesOrOuter.isEmpty()) {
+                    validDependenciesAnd.add(validDependenciesOrOuter.getFirst());
+                } else if(!isMetByRemainingInitial(dependenciesOrOuter, doNotInstall, initialPackages)) {
+                    return null;
+                } // otherwise met by an initial package outside what we're installing, e.g. one outside the component
+          }
+
+          List<Package> previousIncomingEdges = incomingEdges.getOrDefault(nextPackageToInstall, new LinkedList<>());
+          previousIncomingEdges.addAll(validDependenciesAnd);
+          incomingEdges.put(nextPackageToInstall, previousIncomingEdges);
+
+          if(previousIncomingEdges.isEmpty()) noIncomingEdges.push(nextPackageToInstall);
+
+          for(Package nextValidDependencyAnd : validDependenciesAnd) {
+              List<Package> previousOutgoingEdges = outgoingEdges.getOrDefault(nextValidDependencyAnd, new LinkedList<>());
+              previousOutgoingEdges.add(nextPackageToInstall);
+              outgoingEdges.put(nextValidDependencyAnd, previousOutgoingEdges);
+          }
+      }
+
+      // do kahns BITCH
+      while(!noIncomingEdges.isEmpty()) {
+          Package n = noIncomingEdges.pop();
+          result.push(n);
+
+          List<Package> currOutgoingEdges = outgoingEdges.getOrDefault(n, new LinkedList<>());
+          for(Package m : currOutgoingEdges) {
+              List<Package> currIncomingEdges = incomingEdges.get(m);
+              currIncomingEdges.remove(n);
+              incomingEdges.put(m, currIncomingEdges);
+
+              if(currIncomingEdges.isEmpty()) {
+                  noIncomingEdges.push(m);
+              }
+          }
+      }
+
+      if(result.size() < install.size()) {
+          Set<Package> difference = new HashSet<>(install);
+          difference.removeAll(result);
+          throw new CircularDependencyException(difference);
+      }
+      Collections.reverse(result); // need to avoid creating a circular guy, as happens in seen-6
+      return new LinkedHashSet<>(result);
+  }
+
+  private static boolean isMetByRemainingInitial(Set<Set<Package>> dependency, Set<Package> doNotInstall, Set<Package> initialPackages) {
+      for(Set<Package> nextDependencyOuter : dependency) {
+          for(Package nextDependencyInner : nextDependencyOuter) {
+              if(initialPackages.contains(nextDependencyInner) && !doNotInstall.contains(nextDependencyInner)) return true;
+          }
+      }
+
+      return false;
+  }
+
+  private static String constructStringForInstall(Package p, boolean install) {
+      StringBuilder s = new StringBuilder();
+      if(install) s.append("+");
+      else s.append('-');
+
+      s.append(p.getName());
+      s.append('=');
+      s.append(p.getVersion());
+
+      return s.toString();
+  }
+
+  static Long calculateModelScore(Set<Package> install, Set<Package> doNotInstall, Set<Package> initial) {
+      Long score = 0L;
+
+      for(Package installed : install) {
+          if(!initial.contains(installed)) score += (long)(installed.getSize());
+      }
+
+      score += 1000000L * (getSetIntersection(doNotInstall, initial).size());
+
+      return score;
+  }
+
+    /**
+     * What running the commands actually costs, which isn't always the model score when a circle had to be broken
+     * @param commands
+     * @return
+     */
+  private long calculateCommandsCost(List<String> commands) {
+      long cost = 0L;
+
+      for(String nextCommand : commands) {
+          if(nextCommand.charAt(0) == '+') cost += repository.getPackage(nextCommand.substring(1)).getSize();
+          else cost += 1000000L;
+      }
+
+      return cost;
+  }
+
+  static Set<Package> getSetIntersection(Set<Package> set1, Set<Package> set2) {
+      Set<Package> doNotInstallAndInitialIntersection = new HashSet<>(set1);
+      doNotInstallAndInitialIntersection.retainAll(set2);
+
+      return doNotInstallAndInitialIntersection;
+  }
+
+    static Set<Package> getSetDifference(Set<Package> set1, Set<Package> set2) {
+        Set<Package> doNotInstallAndInitialIntersection = new HashSet<>(set1);
+        doNotInstallAndInitialIntersection.removeAll(set2);
+
+        return doNotInstallAndInitialIntersection;
+    }
+
+  /**
+   * Gets a list of valid states using a SAT solver.
+   * @param component
+   * @param componentSolver the solver the component was checked on
+   * @param deadline the enumeration stops at the first model found after this
+   * @return
+   */
+  private List<Assignment> getValidStates(ProblemComponent component, ComponentSolver componentSolver, long deadline) {
+    if(!componentSolver.satisfiable) return Collections.emptyList();
+
+    final FormulaFactory f = componentSolver.f;
+    Set<Variable> variablesWeCareAbout = component.packages.stream().map(p -> getPackageVariable(p, f)).collect(Collectors.toSet());
+//    List<Assignment> possibleModels = Collections.singletonList(componentSolver.miniSat.model(variablesWeCareAbout));
+    List<Assignment> possibleModels = componentSolver.miniSat.enumerateAllModels(variablesWeCareAbout, model -> System.currentTimeMillis() < deadline); // get OutOfMemoryError here. use a list of variables that's filtered on ones we're definitely not using?
+    return possibleModels;
+  }
+
+    /**
+     * Encodes the component into a fresh SAT solver and checks it, the solver is kept so the models can be enumerated on it afterwards
+     * @param component
+     * @return
+     */
+  private ComponentSolver getComponentSolver(ProblemComponent component) {
+      final FormulaFactory f = new FormulaFactory();
+
+      final SATSolver miniSat = MiniSat.miniSat(f);
+      miniSat.addPropositions(getComponentPropositions(component, f));
+      return new ComponentSolver(f, miniSat, miniSat.sat() == Tristate.TRUE);
+  }
+
+    /**
+     * Finds a minimal set of constraints and package definitions that can't all hold at once
+     * @param component a component that has already been found unsatisfiable
+     * @return the constraints as they were given (+A, -B=1) and the packages as name=version
+     */
+  private List<String> explainUnsatisfiable(ProblemComponent component) {
+      final FormulaFactory f = new FormulaFactory();
+
+      List<Proposition> propositions = getComponentPropositions(component, f);
+
+      // a constraint nothing matches is the whole explanation by itself, and the proof tracing doesn't cope with constant false clauses anyway
+      for(Proposition nextProposition : propositions) {
+          if(nextProposition.formula(f) == f.falsum()) return Collections.singletonList(((StandardProposition) nextProposition).description());
+      }
+
+      final SATSolver miniSat = MiniSat.miniSat(f, new MiniSatConfig.Builder().proofGeneration(true).build());
+      miniSat.addPropositions(propositions);
+      miniSat.sat();
+
+      // the core from the proof is usually small but not necessarily minimal, so shrink it down to a MUS
+      List<Proposition> core = miniSat.unsatCore().propositions();
+      List<Proposition> minimalCore = new MUSGeneration().computeMUS(core, f).propositions();
+
+      return minimalCore.stream().map(p -> ((StandardProposition) p).description()).collect(Collectors.toList());
+  }
+
+    /**
+     * Turns the component into one proposition per constraint and one per package definition, so that an UNSAT core can point back at them
+     * @param component
+     * @param f
+     * @return
+     */
+  List<Proposition> getComponentPropositions(ProblemComponent component, FormulaFactory f) {
+      List<Proposition> propositions = new LinkedList<>();
+
+      for(Map.Entry<String, Set<Package>> nextConstraint : component.constraints.entrySet()) {
+          Formula constraintFormula;
+          if(nextConstraint.getKey().charAt(0) == '+') {
+              constraintFormula = f.or(nextConstraint.getValue().stream().map(p -> getPackageVariable(p, f)).collect(Collectors.toList()));
+          } else {
+              constraintFormula = negateAllAndGenerateAnd(nextConstraint.getValue(), f);
+          }
+          propositions.add(new StandardProposition(nextConstraint.getKey(), constraintFormula));
+      }
+
+      for(Package nextPackage : component.packages) {
+          Formula packageFormula = component.unexpanded.contains(nextPackage) ? f.not(getPackageVariable(nextPackage, f)) : generatePackageDefinitionFormula(nextPackage, f);
+          propositions.add(new StandardProposition(nextPackage.getName() + "=" + nextPackage.getVersion(), packageFormula));
+      }
+
+      return propositions;
+  }
+
+    /**
+     * Recursive function that expands the package into its dependencies
+     * @param p the current package that we're expanding
+     * @param f
+     * @return
+     */
+  private Formula getPackageDependenciesFormula(Package p, FormulaFactory f) throws NonexistantDependencyException {
+      List<List<String>> thisPackageDependenciesRaw = p.getDepends();
+
+      List<Formula> dependenciesFormulas = new LinkedList<>();
+
+      for(List<String> nextPackageDependencyRaw : thisPackageDependenciesRaw) {
+          Set<Set<Package>> nextPackageDependencies = null;
+          nextPackageDependencies = repository.getPackagesFromStringWithException(nextPackageDependencyRaw);
+
+          List<Formula> dependencyOuterOr = new LinkedList<>();
+
+          for(Set<Package> nextPackageDependencyAnd : nextPackageDependencies) {
+              List<Formula> dependencyInnerOr = new LinkedList<>();
+              for(Package nextPackageDependencyOr : nextPackageDependencyAnd) {
+                  dependencyInnerOr.add(getPackageVariable(nextPackageDependencyOr, f));
+              }
+              Formula innerOrFormula = f.or(dependencyInnerOr);
+              dependencyOuterOr.add(innerOrFormula);
+          }
+
+          Formula outerOrFormula = f.or(dependencyOuterOr);
+          dependenciesFormulas.add(outerOrFormula);
+      }
+
+
+      Formula dependenciesFormula = f.and(dependenciesFormulas);
+      return dependenciesFormula;
+  }
+
+  private Formula getPackageConflictsFormula(Package p, FormulaFactory f) {
+      List<Formula> conflictsFormulas = new LinkedList<>();
+
+      List<String> packageConflictsRaw = p.getConflicts();
+
+      Set<Set<Package>> packageConflicts = repository.getPackagesFromString(packageConflictsRaw);
+
+      for(Set<Package> nextPackageConflictGroup : packageConflicts) {
+          conflictsFormulas.add(negateAllAndGenerateAnd(nextPackageConflictGroup, f));
+      }
+
+      return f.and(conflictsFormulas);
+  }
+
+  static Variable getPackageVariable(Package p, FormulaFactory f) {
+      String variableName = p.getName() + "=" + p.getVersion();
+      return f.variable(variableName);
+  }
+
+  private Set<Package> getPackagesWeCareAbout(Package p, Set<Package> answer, Set<Package> alreadyExpanded) {
+      if(alreadyExpanded.contains(p)) return answer;
+      alreadyExpanded.add(p);
+      answer.add(p);
+
+      List<String> packageConflictsRaw = p.getConflicts();
+      Set<Set<Package>> packageConflicts = repository.getPackagesFromString(packageConflictsRaw);
+
+      for(Set<Package> nextPackageConflictOuter : packageConflicts) {
+          for(Package nextPackageConflictInner : nextPackageConflictOuter) {
+              answer.add(nextPackageConflictInner);
+          }
+      }
+
+      List<List<String>> packageDependenciesRaw = p.getDepends();
+      for(List<String> nextPackageDependencyRaw : packageDependenciesRaw) {
+          Set<Set<Package>> nextPackageDependency = repository.getPackagesFromString(nextPackageDependencyRaw);
+          for(Set<Package> nextPackageDependencyOuter : nextPackageDependency) {
+              for(Package nextPackageDependencyInner : nextPackageDependencyOuter) {
+                  getPackagesWeCareAbout(nextPackageDependencyInner, answer, alreadyExpanded);
+              }
+          }
+      }
+
+      return answer;
+  }
+
+    private static Formula negateAllAndGenerateAnd(Set<Package> packages, FormulaFactory f) {
+        List<Formula> negatedPackages = packages.stream().map(nextPackage -> f.not(getPackageVariable(nextPackage, f))).collect(Collectors.toList());
+        return f.and(negatedPackages);
+    }
+
+    private Formula generatePackageDefinitionFormula(Package p, FormulaFactory f) {
+        try {
+            Formula packageDefinitionFormula = f.not(getPackageVariable(p, f));
+            Formula packageDependenciesFormula = getPackageDependenciesFormula(p, f);
+            Formula packageConflictsFormula = getPackageConflictsFormula(p, f);
+            return f.or(packageDefinitionFormula, f.and(packageDependenciesFormula, packageConflictsFormula));
+        } catch(NonexistantDependencyException e) {
+            return f.not(getPackageVariable(p, f));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package depsolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves the same request over and over from a growing number of threads, all sharing one {@link Repository} and {@link Solver}.
+ * ThroughputBenchmark repository.json initial.json constraints.json [maxThreads] [solvesPerThread]
+ */
+public class ThroughputBenchmark {
+  public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+    Repository repository = Repository.fromJson(Main.readFile(args[0]));
+    SolveRequest request = SolveRequest.fromJson(Main.readFile(args[1]), Main.readFile(args[2]));
+    int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    int solvesPerThread = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+    Solver solver = new Solver(repository);
+
+    // warm up the JIT before timing anything
+    for(int i = 0; i < solvesPerThread; i ++) solver.solve(request);
+
+    System.out.println("threads,solves,millis,solvesPerSecond");
+
+    for(int threads = 1; threads <= maxThreads; threads *= 2) {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      List<Future<?>> futures = new ArrayList<>();
+
+      long startTime = System.nanoTime();
+      for(int t = 0; t < threads; t ++) {
+        futures.add(executor.submit(() -> {
+          for(int i = 0; i < solvesPerThread; i ++) solver.solve(request);
+        }));
+      }
+      for(Future<?> nextFuture : futures) nextFuture.get();
+      long elapsedMillis = Math.max(1L, (System.nanoTime() - startTime) / 1000000L);
+
+      executor.shutdown();
+
+      int solves = threads * solvesPerThread;
+      System.out.println(threads + "," + solves + "," + elapsedMillis + "," + (solves * 1000L / elapsedMillis));
+    }
+  }
+}